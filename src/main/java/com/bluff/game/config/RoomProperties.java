@@ -0,0 +1,24 @@
+package com.bluff.game.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// 房间生命周期相关配置，对应 application.yml 中的 bluff.room
+@Data
+@Component
+@ConfigurationProperties(prefix = "bluff.room")
+public class RoomProperties {
+    // 各状态下房间无人活动多久后被回收
+    private Duration waitingTtl = Duration.ofMinutes(10);
+    private Duration playingTtl = Duration.ofMinutes(30);
+    private Duration finishedTtl = Duration.ofMinutes(5);
+    // 回收线程每次执行的间隔和最多检查的房间数
+    private Duration sweepInterval = Duration.ofSeconds(5);
+    private int sweepBatchSize = 200;
+    // 总量上限，超出后拒绝建房/新连接；房间号只有约 9000 个，maxRooms 需明显小于它
+    private int maxRooms = 5000;
+    private int maxSessions = 20000;
+}
@@ -0,0 +1,52 @@
+package com.bluff.game.controller;
+
+import com.bluff.game.manager.LobbyManager;
+import com.bluff.game.model.LobbyPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping("/api/lobby")
+public class LobbyController {
+
+    private static final long POLL_TIMEOUT_MS = 25000;
+
+    @Autowired
+    private LobbyManager lobbyManager;
+
+    // 带 ETag 返回，If-None-Match 命中时由 Spring 自动转成 304
+    @GetMapping
+    public ResponseEntity<LobbyPage> listRooms(@RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "20") int size) {
+        return toResponse(lobbyManager.getPage(page, size));
+    }
+
+    // 长轮询：带上已知 version，所在页有变化才返回，超时后客户端重新发起
+    @GetMapping("/poll")
+    public DeferredResult<ResponseEntity<LobbyPage>> pollRooms(@RequestParam String version,
+                                                               @RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "20") int size) {
+        DeferredResult<ResponseEntity<LobbyPage>> result = new DeferredResult<>(POLL_TIMEOUT_MS);
+        // 超时时若版本已因其他页变化而前进，返回最新页让客户端拿到新版本，否则下一次轮询会立即返回
+        result.onTimeout(() -> {
+            LobbyPage current = lobbyManager.getPage(page, size);
+            result.setResult(current.getVersion().equals(version)
+                    ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version)).build()
+                    : toResponse(current));
+        });
+        Runnable unsubscribe = lobbyManager.subscribe(version, page, size, p -> result.setResult(toResponse(p)));
+        result.onCompletion(unsubscribe);
+        return result;
+    }
+
+    private ResponseEntity<LobbyPage> toResponse(LobbyPage page) {
+        return ResponseEntity.ok().eTag(etag(page.getVersion())).body(page);
+    }
+
+    private String etag(String version) {
+        return "\"" + version + "\"";
+    }
+}
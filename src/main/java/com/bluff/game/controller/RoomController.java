@@ -1,11 +1,16 @@
 package com.bluff.game.controller;
 
 import com.bluff.game.manager.RoomManager;
+import com.bluff.game.manager.RoomSweeper;
 import com.bluff.game.model.GameRoom;
 import com.bluff.game.model.Player;
 import com.bluff.game.websocket.GameWebSocketHandler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/room")
@@ -17,6 +22,9 @@ public class RoomController {
     @Autowired
     private GameWebSocketHandler webSocketHandler;
 
+    @Autowired
+    private RoomSweeper roomSweeper;
+
     private void cleanupPlayerFromRooms(String userId) {
         try {
             webSocketHandler.handleUserLeave(userId);
@@ -27,13 +35,20 @@ public class RoomController {
 
     @PostMapping("/create")
     public GameRoom createRoom(@RequestBody Player host) {
+        // 房间数达到上限时拒绝建房，等回收线程腾出空间
+        if (!roomManager.hasCapacity()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many rooms");
+        }
         cleanupPlayerFromRooms(host.getUserId());
-        String roomId = String.valueOf((int)((Math.random() * 9 + 1) * 1000));
-        GameRoom room = roomManager.createRoom(roomId);
+        GameRoom room = roomManager.createRoom();
+        if (room == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many rooms");
+        }
         host.setHost(true);
         host.setOnline(false);
         host.setLastSeen(System.currentTimeMillis());
         room.addPlayer(host);
+        roomManager.roomChanged(room);
         return room;
     }
 
@@ -47,7 +62,11 @@ public class RoomController {
                 player.setOnline(false);
                 player.setLastSeen(System.currentTimeMillis());
                 room.addPlayer(player);
-                return room;
+                // 加入期间房间可能刚被回收线程移除，此时按房间不存在处理
+                if (roomManager.getRoom(room.getRoomId()) == room) {
+                    roomManager.roomChanged(room);
+                    return room;
+                }
             }
         }
         throw new RuntimeException("Room not found or full");
@@ -63,12 +82,21 @@ public class RoomController {
                 player.setOnline(false);
                 player.setLastSeen(System.currentTimeMillis());
                 room.addPlayer(player);
-                return room;
+                // 加入期间房间可能刚被回收线程移除，此时按房间不存在处理
+                if (roomManager.getRoom(room.getRoomId()) == room) {
+                    roomManager.roomChanged(room);
+                    return room;
+                }
             }
         }
         return createRoom(player);
     }
 
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return roomSweeper.getStats();
+    }
+
     private void cleanupZombiePlayers(GameRoom room) {
         if (room == null) return;
         long now = System.currentTimeMillis();
@@ -78,5 +106,6 @@ public class RoomController {
             // 如果不在线，但刚进来不到 10 秒（可能正在建立连接），暂时保留
             return (now - p.getLastSeen() > 10000);
         });
+        roomManager.roomChanged(room);
     }
 }
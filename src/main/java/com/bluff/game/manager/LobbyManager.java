@@ -0,0 +1,176 @@
+package com.bluff.game.manager;
+
+import com.bluff.game.model.GameRoom;
+import com.bluff.game.model.LobbyPage;
+import com.bluff.game.model.LobbyRoom;
+import com.bluff.game.model.Player;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 大厅索引：只保存可加入的房间，由房间变化时增量维护，
+ * 查询时不需要扫描全部房间。每次内容变化 version 加一，对外的版本号为 "进程纪元-version"，
+ * 用作 ETag 和长轮询的依据；纪元每个进程随机生成，避免重启或多副本之间的版本号相撞。
+ */
+@Component
+public class LobbyManager {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final Map<String, LobbyRoom> joinable = new ConcurrentSkipListMap<>();
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    // 唤醒长轮询放到单独线程，不占用调用方（游戏线程）持有的锁；连续变化只排一次
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "lobby-notifier");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean notifyPending = new AtomicBoolean();
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private volatile long version = 0;
+    private volatile Snapshot snapshot = new Snapshot(0, Collections.emptyList());
+
+    @PreDestroy
+    public void stop() {
+        notifier.shutdownNow();
+    }
+
+    public String getVersion() {
+        return tag(version);
+    }
+
+    public boolean contains(String roomId) {
+        return joinable.containsKey(roomId);
+    }
+
+    // 房间状态或人数变化后调用
+    public void update(GameRoom room) {
+        LobbyRoom entry = toEntry(room);
+        boolean changed;
+        synchronized (this) {
+            LobbyRoom old = entry == null ? joinable.remove(room.getRoomId()) : joinable.put(room.getRoomId(), entry);
+            changed = entry == null ? old != null : !entry.equals(old);
+            if (changed) version++;
+        }
+        if (changed) scheduleNotify();
+    }
+
+    public void remove(String roomId) {
+        boolean changed;
+        synchronized (this) {
+            changed = joinable.remove(roomId) != null;
+            if (changed) version++;
+        }
+        if (changed) scheduleNotify();
+    }
+
+    public LobbyPage getPage(int page, int size) {
+        Snapshot s = currentSnapshot();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNo = Math.max(0, page);
+        int from = Math.min(pageNo * pageSize, s.rooms.size());
+        int to = Math.min(from + pageSize, s.rooms.size());
+        return new LobbyPage(tag(s.version), pageNo, pageSize, s.rooms.size(), s.rooms.subList(from, to));
+    }
+
+    /**
+     * 长轮询订阅：客户端已知版本与当前不同时立即回调，否则等到该客户端所在页的内容变化时回调一次，
+     * 其他页的变化不会唤醒它。返回值用于超时或连接断开时取消订阅。
+     */
+    public Runnable subscribe(String knownVersion, int page, int size, Consumer<LobbyPage> listener) {
+        LobbyPage current = getPage(page, size);
+        if (!current.getVersion().equals(knownVersion)) {
+            listener.accept(current);
+            return () -> { };
+        }
+        Waiter waiter = new Waiter(page, size, current.getRooms(), listener);
+        waiters.add(waiter);
+        // 入队后再检查一次，避免错过入队前刚发生的变化
+        wake(waiter);
+        return () -> waiters.remove(waiter);
+    }
+
+    private void scheduleNotify() {
+        if (notifyPending.compareAndSet(false, true)) {
+            notifier.execute(this::notifyWaiters);
+        }
+    }
+
+    private void notifyWaiters() {
+        notifyPending.set(false);
+        for (Waiter waiter : waiters) {
+            wake(waiter);
+        }
+    }
+
+    // 所在页内容变了才回调；remove 成功才回调，保证与取消互斥，每个等待者只回调一次
+    private void wake(Waiter waiter) {
+        LobbyPage current = getPage(waiter.page, waiter.size);
+        if (!current.getRooms().equals(waiter.seen) && waiters.remove(waiter)) {
+            waiter.listener.accept(current);
+        }
+    }
+
+    private String tag(long v) {
+        return epoch + "-" + v;
+    }
+
+    // 列表按版本缓存，多个读者共享同一份快照，每个版本最多重建一次
+    private Snapshot currentSnapshot() {
+        Snapshot s = snapshot;
+        if (s.version == version) return s;
+        synchronized (this) {
+            if (snapshot.version != version) {
+                snapshot = new Snapshot(version, Collections.unmodifiableList(new ArrayList<>(joinable.values())));
+            }
+            return snapshot;
+        }
+    }
+
+    private LobbyRoom toEntry(GameRoom room) {
+        List<Player> players = new ArrayList<>(room.getPlayers());
+        int count = players.size();
+        if (!"WAITING".equals(room.getStatus()) || count == 0 || count >= 3) return null;
+        String host = players.stream().filter(Player::isHost).map(Player::getNickname).findFirst()
+                .orElse(players.get(0).getNickname());
+        return new LobbyRoom(room.getRoomId(), host, count);
+    }
+
+    private static class Snapshot {
+        final long version;
+        final List<LobbyRoom> rooms;
+
+        Snapshot(long version, List<LobbyRoom> rooms) {
+            this.version = version;
+            this.rooms = rooms;
+        }
+    }
+
+    private static class Waiter {
+        final int page;
+        final int size;
+        final List<LobbyRoom> seen;
+        final Consumer<LobbyPage> listener;
+
+        Waiter(int page, int size, List<LobbyRoom> seen, Consumer<LobbyPage> listener) {
+            this.page = page;
+            this.size = size;
+            this.seen = seen;
+            this.listener = listener;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.bluff.game.manager;
 
+import com.bluff.game.config.RoomProperties;
 import com.bluff.game.model.GameRoom;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import java.util.Collection;
 import java.util.Map;
@@ -8,21 +10,61 @@ import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class RoomManager {
+    private static final int CREATE_RETRIES = 20;
+
     private final Map<String, GameRoom> rooms = new ConcurrentHashMap<>();
 
-    public GameRoom createRoom(String roomId) {
-        GameRoom room = new GameRoom();
-        room.setRoomId(roomId);
-        rooms.put(roomId, room);
-        return room;
+    @Autowired
+    private LobbyManager lobbyManager;
+
+    @Autowired
+    private RoomProperties roomProperties;
+
+    // 房间号只有 1000-9999 约 9000 个，用 putIfAbsent 避免覆盖正在使用的房间；
+    // 达到上限或多次重试仍冲突时返回 null
+    public GameRoom createRoom() {
+        if (!hasCapacity()) return null;
+        for (int i = 0; i < CREATE_RETRIES; i++) {
+            String roomId = String.valueOf((int)((Math.random() * 9 + 1) * 1000));
+            GameRoom room = new GameRoom();
+            room.setRoomId(roomId);
+            if (rooms.putIfAbsent(roomId, room) == null) {
+                return room;
+            }
+        }
+        return null;
+    }
+
+    public boolean hasCapacity() {
+        return rooms.size() < roomProperties.getMaxRooms();
+    }
+
+    public int getRoomCount() {
+        return rooms.size();
     }
 
     public GameRoom getRoom(String roomId) {
         return rooms.get(roomId);
     }
 
-    public void removeRoom(String roomId) {
-        rooms.remove(roomId);
+    // 只在 roomId 仍指向同一个房间对象时移除，避免误删同号新房间
+    public boolean removeRoom(GameRoom room) {
+        synchronized (lobbyManager) {
+            boolean removed = rooms.remove(room.getRoomId(), room);
+            if (removed) lobbyManager.remove(room.getRoomId());
+            return removed;
+        }
+    }
+
+    // 房间人数或状态变化后调用，同步大厅索引；已被移除的房间不再写回
+    public void roomChanged(GameRoom room) {
+        // 既不是 WAITING 也不在大厅里的房间（游戏中），大厅不会变化，不必加锁
+        if (!"WAITING".equals(room.getStatus()) && !lobbyManager.contains(room.getRoomId())) return;
+        synchronized (lobbyManager) {
+            if (rooms.get(room.getRoomId()) == room) {
+                lobbyManager.update(room);
+            }
+        }
     }
 
     public Collection<GameRoom> getAllRooms() {
@@ -0,0 +1,157 @@
+package com.bluff.game.manager;
+
+import com.bluff.game.config.RoomProperties;
+import com.bluff.game.model.GameRoom;
+import com.bluff.game.model.Player;
+import com.bluff.game.websocket.GameWebSocketHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 房间回收线程：每次只检查一批房间，按状态对应的空闲时间回收，
+ * 一轮遍历结束后重新开始，不会一次扫完所有房间。
+ */
+@Component
+public class RoomSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomSweeper.class);
+
+    // 内存估算用的粗略大小（字节），只用于观察趋势
+    private static final long ROOM_BYTES = 1024;
+    private static final long PLAYER_BYTES = 512;
+    private static final long CARD_BYTES = 32;
+
+    @Autowired
+    private RoomManager roomManager;
+
+    @Autowired
+    private GameWebSocketHandler webSocketHandler;
+
+    @Autowired
+    private RoomProperties roomProperties;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "room-sweeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicLong evictedWaiting = new AtomicLong();
+    private final AtomicLong evictedPlaying = new AtomicLong();
+    private final AtomicLong evictedFinished = new AtomicLong();
+    private final AtomicLong purgedTimers = new AtomicLong();
+
+    // 只在回收线程内访问
+    private Iterator<GameRoom> cursor;
+    private long cycleBytes = 0;
+    private int cycleEvicted = 0;
+
+    private volatile long estimatedBytes = 0;
+    private volatile long lastCycleAt = 0;
+
+    @PostConstruct
+    public void start() {
+        long interval = roomProperties.getSweepInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (Exception e) {
+                log.error("房间回收失败", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    void sweep() {
+        long now = System.currentTimeMillis();
+        if (cursor == null) {
+            cursor = roomManager.getAllRooms().iterator();
+        }
+        int budget = roomProperties.getSweepBatchSize();
+        while (budget-- > 0 && cursor.hasNext()) {
+            GameRoom room = cursor.next();
+            if (isIdle(room, now) && webSocketHandler.evictRoom(room)) {
+                countEviction(room.getStatus());
+                cycleEvicted++;
+            } else {
+                cycleBytes += estimateBytes(room);
+            }
+        }
+
+        if (!cursor.hasNext()) {
+            // 计时器表整表扫描，只在每轮结束时做一次
+            purgedTimers.addAndGet(webSocketHandler.purgeStaleTimers());
+            estimatedBytes = cycleBytes;
+            lastCycleAt = now;
+            if (cycleEvicted > 0) {
+                log.info("房间回收完成一轮: 回收 {} 个, 剩余 {} 个, 估算占用 {} KB",
+                        cycleEvicted, roomManager.getRoomCount(), cycleBytes / 1024);
+            }
+            cursor = null;
+            cycleBytes = 0;
+            cycleEvicted = 0;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("rooms", roomManager.getRoomCount());
+        stats.put("sessions", webSocketHandler.getSessionCount());
+        stats.put("evictedWaiting", evictedWaiting.get());
+        stats.put("evictedPlaying", evictedPlaying.get());
+        stats.put("evictedFinished", evictedFinished.get());
+        stats.put("purgedTimers", purgedTimers.get());
+        stats.put("estimatedBytes", estimatedBytes);
+        stats.put("lastCycleAt", lastCycleAt);
+        return stats;
+    }
+
+    // 以房间创建时间和玩家最近一次消息时间中最新的一个作为最后活动时间
+    private boolean isIdle(GameRoom room, long now) {
+        long lastActive = room.getCreatedAt();
+        for (Player p : room.getPlayers()) {
+            lastActive = Math.max(lastActive, p.getLastSeen());
+        }
+        return now - lastActive > ttlOf(room.getStatus());
+    }
+
+    private long ttlOf(String status) {
+        if ("PLAYING".equals(status)) return roomProperties.getPlayingTtl().toMillis();
+        if ("FINISHED".equals(status)) return roomProperties.getFinishedTtl().toMillis();
+        return roomProperties.getWaitingTtl().toMillis();
+    }
+
+    private void countEviction(String status) {
+        if ("PLAYING".equals(status)) {
+            evictedPlaying.incrementAndGet();
+        } else if ("FINISHED".equals(status)) {
+            evictedFinished.incrementAndGet();
+        } else {
+            evictedWaiting.incrementAndGet();
+        }
+    }
+
+    private long estimateBytes(GameRoom room) {
+        long bytes = ROOM_BYTES + room.getDeskPile().size() * CARD_BYTES;
+        for (Player p : room.getPlayers()) {
+            bytes += PLAYER_BYTES + p.getHandCards().size() * CARD_BYTES;
+        }
+        return bytes;
+    }
+}
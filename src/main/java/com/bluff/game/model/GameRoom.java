@@ -15,6 +15,7 @@ public class GameRoom {
     private String lastClaimedRank; // 上一次声明的点数
     private List<Card> lastPlayedCards = new ArrayList<>(); // 上一次实际出的牌
     private String lastPlayerId; // 上一个出牌的人
+    private long createdAt = System.currentTimeMillis();
 
     public void addPlayer(Player player) {
         // 先检查是否已经在房间里了（比如掉线重连）
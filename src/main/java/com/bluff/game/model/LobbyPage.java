@@ -0,0 +1,19 @@
+package com.bluff.game.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyPage {
+    // "进程纪元-版本号"，同时作为 ETag 和长轮询参数
+    private String version;
+    private int page;
+    private int size;
+    private int total;
+    private List<LobbyRoom> rooms;
+}
@@ -0,0 +1,15 @@
+package com.bluff.game.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 大厅列表里的房间摘要，只包含展示需要的字段
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyRoom {
+    private String roomId;
+    private String hostNickname;
+    private int playerCount;
+}
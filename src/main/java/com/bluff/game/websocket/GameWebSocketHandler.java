@@ -2,6 +2,7 @@ package com.bluff.game.websocket;
 
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONObject;
+import com.bluff.game.config.RoomProperties;
 import com.bluff.game.manager.RoomManager;
 import com.bluff.game.model.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,21 +15,42 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Component
 public class GameWebSocketHandler extends TextWebSocketHandler {
 
+    private static final String REJECTED_ATTR = "rejected";
+
     @Autowired
     private RoomManager roomManager;
 
+    @Autowired
+    private RoomProperties roomProperties;
+
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
     private final Map<String, String> sessionToUser = new ConcurrentHashMap<>();
     private final Map<String, ScheduledFuture<?>> timers = new ConcurrentHashMap<>();
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+    // 当前打开的连接数（不论是否已发过消息），用于连接上限
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        // 连接数达到上限时直接拒绝，客户端稍后重连
+        if (connectionCount.incrementAndGet() > roomProperties.getMaxSessions()) {
+            connectionCount.decrementAndGet();
+            session.getAttributes().put(REJECTED_ATTR, true);
+            session.close(CloseStatus.SERVICE_OVERLOAD);
+        }
+    }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+        if (session.getAttributes().remove(REJECTED_ATTR) == null) {
+            connectionCount.decrementAndGet();
+        }
         String userId = sessionToUser.get(session.getId());
         if (userId != null) {
             // 检查这是否是该用户的当前活跃 session
@@ -46,6 +68,43 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
         return session != null && session.isOpen();
     }
 
+    public int getSessionCount() {
+        return connectionCount.get();
+    }
+
+    // 由回收线程调用：移除空闲房间，取消计时器并通知仍连着的玩家
+    public boolean evictRoom(GameRoom room) {
+        if (!roomManager.removeRoom(room)) return false;
+        cancelTimer(room.getRoomId());
+        Map<String, Object> result = new HashMap<>();
+        result.put("roomId", room.getRoomId());
+        result.put("reason", "房间长时间无活动，已关闭");
+        broadcast(room, "ROOM_CLOSED", result);
+        return true;
+    }
+
+    // 清理房间已不存在或已执行完的计时器，返回清理数量
+    public int purgeStaleTimers() {
+        int purged = 0;
+        for (Map.Entry<String, ScheduledFuture<?>> entry : timers.entrySet()) {
+            ScheduledFuture<?> future = entry.getValue();
+            if (future.isDone() || roomManager.getRoom(entry.getKey()) == null) {
+                if (timers.remove(entry.getKey(), future)) {
+                    future.cancel(false);
+                    purged++;
+                }
+            }
+        }
+        return purged;
+    }
+
+    private void cancelTimer(String roomId) {
+        ScheduledFuture<?> future = timers.remove(roomId);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
     public void handleUserLeave(String userId) throws IOException {
         for (GameRoom room : roomManager.getAllRooms()) {
             boolean removed = room.getPlayers().removeIf(p -> p.getUserId().equals(userId));
@@ -61,7 +120,7 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
                     }
                 } else {
                     if (room.getPlayers().isEmpty()) {
-                        roomManager.removeRoom(room.getRoomId());
+                        roomManager.removeRoom(room);
                     } else {
                         // 重设房主
                         if (!room.getPlayers().stream().anyMatch(Player::isHost)) {
@@ -84,7 +143,7 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     private void endGameWithWinner(GameRoom room) throws IOException {
         Player winner = room.getPlayers().stream().filter(Player::isOnline).findFirst().orElse(null);
         if (winner == null) {
-            roomManager.removeRoom(room.getRoomId());
+            roomManager.removeRoom(room);
             return;
         }
 
@@ -376,6 +435,8 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     }
 
     private void broadcast(GameRoom room, String type, Object data) {
+        // 每次广播都意味着房间有变化，顺带同步大厅列表
+        roomManager.roomChanged(room);
         Map<String, Object> packet = new HashMap<>();
         packet.put("type", type);
         packet.put("payload", data);